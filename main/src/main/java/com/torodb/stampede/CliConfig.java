@@ -70,6 +70,9 @@ public class CliConfig {
   @Parameter(names = {"--connection-pool-size"}, descriptionKey =
       "config.generic.connectionPoolSize")
   private String connectionPoolSize;
+  @Parameter(names = {"--reserved-read-pool-size"}, descriptionKey =
+      "config.generic.reservedReadPoolSize")
+  private String reservedReadPoolSize;
   @Parameter(names = {"--enable-metrics"}, descriptionKey = "config.generic.enableMetrics")
   private Boolean metricsEnabled;
 
@@ -239,6 +242,10 @@ public class CliConfig {
     return connectionPoolSize;
   }
 
+  public String getReservedReadPoolSize() {
+    return reservedReadPoolSize;
+  }
+
   public Boolean getMetricsEnabled() {
     return metricsEnabled;
   }
@@ -421,6 +428,9 @@ public class CliConfig {
     if (connectionPoolSize != null) {
       addParam("/backend/pool/connectionPoolSize", connectionPoolSize);
     }
+    if (reservedReadPoolSize != null) {
+      addParam("/backend/pool/reservedReadPoolSize", reservedReadPoolSize);
+    }
     String backend = this.backend != null ? this.backend : "postgres";
     if (backendHost != null) {
       addParam("/backend/" + backend + "/host", backendHost);
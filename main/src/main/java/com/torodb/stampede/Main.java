@@ -22,6 +22,7 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.internal.Console;
 import com.beust.jcommander.internal.Lists;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
@@ -58,6 +59,7 @@ import com.torodb.packaging.util.MongoClientConfigurationPropertiesFactory;
 import com.torodb.packaging.util.ReplicationFiltersFactory;
 import com.torodb.stampede.config.model.Config;
 import com.torodb.stampede.config.model.backend.Backend;
+import com.torodb.stampede.config.model.backend.ShardBackend;
 import com.torodb.stampede.config.model.mongo.replication.Replication;
 import com.torodb.stampede.config.model.mongo.replication.ShardReplication;
 
@@ -70,13 +72,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.time.Clock;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * ToroDB Stampede entry point.
@@ -155,7 +161,9 @@ public class Main {
 
       configureLogger(cliConfig, config);
 
-      parseToropassFile(config);
+      for (Backend backend : getBackends(config)) {
+        parseToropassFile(backend);
+      }
 
       Replication replication = config.getReplication();
       List<AbstractShardReplication> shards;
@@ -212,22 +220,8 @@ public class Main {
         }
       }
 
-      if (config.getBackend().isLike(AbstractPostgres.class)) {
-        AbstractPostgres postgres = config.getBackend().as(AbstractPostgres.class);
-
-        if (cliConfig.isAskForPassword()) {
-          console.print("Type database user " + postgres.getUser() + "'s password:");
-          postgres.setPassword(readPwd());
-        }
-
-        if (postgres.getPassword() == null) {
-          throw new SystemException("No password provided for database user " + postgres.getUser()
-              + ".\n\n"
-              + "Please add following line to file " + postgres.getToropassFile() + ":\n"
-              + postgres.getHost() + ":" + postgres.getPort() + ":"
-              + postgres.getDatabase() + ":" + postgres.getUser() + ":<password>\n"
-              + "Replace <password> with the password of backend user " + postgres.getUser());
-        }
+      for (Backend backend : getBackends(config)) {
+        checkBackendPassword(cliConfig, console, backend);
       }
 
       for (AbstractShardReplication shard : shards) {
@@ -318,15 +312,28 @@ public class Main {
         config.getReplication());
 
     if (config.getReplication().isShardingReplication()) {
+      //pools and other metrics registered by backend and torod bundles have fixed names, so
+      //they would collide when more than one backend is started on the same process
+      if (!config.getShardBackends().isEmpty() && config.getMetricsEnabled()) {
+        throw new SystemException("Metrics can not be enabled when section shardBackends is "
+            + "specified");
+      }
+      checkBackendTargets(config);
       return StampedeConfig.createShardingConfig(
           essentialInjector,
           backendBundleGenerator,
           replFilters,
           createShardConfigBuilders(replicationConfig),
+          createBackendRoutes(config),
           LOGGER_FACTORY,
-          config.getOffHeapBuffer()
+          config.getOffHeapBuffer(),
+          replicationConfig.getBootstrapParallelism()
       );
     } else {
+      if (!config.getShardBackends().isEmpty()) {
+        throw new SystemException("Section shardBackends can only be used when the replication "
+            + "shards section is specified");
+      }
       return StampedeConfig.createUnshardedConfig(
           essentialInjector,
           backendBundleGenerator,
@@ -379,7 +386,86 @@ public class Main {
     }
   }
 
-  private static void parseToropassFile(Config config) {
+  /**
+   * Returns the backends ToroDB Stampede will connect to.
+   *
+   * <p>The default backend is not included when all shards are stored on backends of section
+   * shardBackends.
+   */
+  @VisibleForTesting
+  static List<Backend> getBackends(Config config) {
+    List<Backend> backends = Lists.newArrayList();
+    if (isDefaultBackendUsed(config)) {
+      backends.add(config.getBackend());
+    }
+    config.getShardBackends().forEach(shardBackend -> backends.add(shardBackend.getBackend()));
+    return backends;
+  }
+
+  private static boolean isDefaultBackendUsed(Config config) {
+    if (!config.getReplication().isShardingReplication()) {
+      return true;
+    }
+    Set<String> routedShardIds = config.getShardBackends().stream()
+        .flatMap(shardBackend -> shardBackend.getShards().stream())
+        .collect(Collectors.toSet());
+    return !routedShardIds.containsAll(getShardIds(config.getReplication()));
+  }
+
+  /**
+   * Checks that no two backends ToroDB Stampede connects to store their data on the same
+   * database, as each one would drop and replace the data of the others.
+   */
+  @VisibleForTesting
+  static void checkBackendTargets(Config config) {
+    Set<String> targets = new HashSet<>();
+    for (Backend backend : getBackends(config)) {
+      String target = getBackendTarget(backend);
+      if (!targets.add(target)) {
+        throw new SystemException("Database " + target + " is configured on more than one "
+            + "backend. Each entry of section shardBackends must use a different database than "
+            + "the other entries and than section backend");
+      }
+    }
+  }
+
+  private static String getBackendTarget(Backend backend) {
+    BackendImplementationVisitor<String, Void> visitor =
+        new BackendImplementationVisitorWithDefault<String, Void>() {
+      @Override
+      public <T extends BackendImplementation & BackendPasswordConfig>
+          String defaultVisit(T value, Void arg) {
+        return value.getHost().toLowerCase(Locale.ROOT) + ":" + value.getPort() + "/"
+            + value.getDatabase();
+      }
+    };
+
+    return backend.getBackendImplementation().accept(visitor, null);
+  }
+
+  private static void checkBackendPassword(CliConfig cliConfig, Console console, Backend backend)
+      throws IOException {
+    if (backend.isLike(AbstractPostgres.class)) {
+      AbstractPostgres postgres = backend.as(AbstractPostgres.class);
+
+      if (cliConfig.isAskForPassword()) {
+        console.print("Type database user " + postgres.getUser() + "'s password for "
+            + postgres.getHost() + ":" + postgres.getPort() + "/" + postgres.getDatabase() + ":");
+        postgres.setPassword(readPwd());
+      }
+
+      if (postgres.getPassword() == null) {
+        throw new SystemException("No password provided for database user " + postgres.getUser()
+            + ".\n\n"
+            + "Please add following line to file " + postgres.getToropassFile() + ":\n"
+            + postgres.getHost() + ":" + postgres.getPort() + ":"
+            + postgres.getDatabase() + ":" + postgres.getUser() + ":<password>\n"
+            + "Replace <password> with the password of backend user " + postgres.getUser());
+      }
+    }
+  }
+
+  private static void parseToropassFile(Backend backend) {
     BackendImplementationVisitor<?, ?> visitor = 
         new BackendImplementationVisitorWithDefault<Void, Void>() {
       @Override
@@ -394,7 +480,26 @@ public class Main {
       }
     };
 
-    config.getBackend().getBackendImplementation().accept(visitor, null);
+    backend.getBackendImplementation().accept(visitor, null);
+  }
+
+  private static List<StampedeConfig.BackendRoute> createBackendRoutes(Config config) {
+    List<ShardBackend> shardBackends = config.getShardBackends();
+    return IntStream.range(0, shardBackends.size())
+        .mapToObj(index -> createBackendRoute("/shardBackends/" + index, shardBackends.get(index)))
+        .collect(Collectors.toList());
+  }
+
+  private static StampedeConfig.BackendRoute createBackendRoute(String name,
+      ShardBackend shardBackend) {
+    Backend backendConfig = shardBackend.getBackend();
+    return new StampedeConfig.BackendRoute(
+        name,
+        generalConfig -> BundleFactory.createBackendBundle(
+            backendConfig,
+            generalConfig
+        ),
+        shardBackend.getShards());
   }
 
   private static List<StampedeConfig.ShardConfigBuilder> createShardConfigBuilders(
@@ -423,6 +528,13 @@ public class Main {
     return translateShardConfig(mergedShardConfig, shardIdProvider);
   }
 
+  private static List<String> getShardIds(Replication replicationConfig) {
+    AtomicInteger counter = new AtomicInteger();
+    return replicationConfig.getShardList().stream()
+        .map(shardRepl -> getShardId(shardRepl, counter))
+        .collect(Collectors.toList());
+  }
+
   private static String getShardId(ShardReplication shardRepl, AtomicInteger counter) {
     if (shardRepl.getName().isDefault() && shardRepl.getName().value() != null) {
       return shardRepl.getName().value();
@@ -26,14 +26,19 @@ import com.torodb.packaging.config.validation.MutualExclusiveReplSetOrShards;
 import com.torodb.packaging.config.validation.RequiredParametersForAuthentication;
 import com.torodb.packaging.config.validation.SslEnabledForX509Authentication;
 import com.torodb.stampede.config.model.backend.Backend;
+import com.torodb.stampede.config.model.backend.ShardBackend;
 import com.torodb.stampede.config.model.cache.OffHeapBuffer;
 import com.torodb.stampede.config.model.logging.Logging;
 import com.torodb.stampede.config.model.mongo.replication.Replication;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
-@JsonPropertyOrder({"logging", "metricsEnabled", "offHeapBuffer", "replication", "backend"})
+@JsonPropertyOrder({"logging", "metricsEnabled", "offHeapBuffer", "replication", "backend",
+    "shardBackends"})
 public class Config implements MetricsConfig {
 
   @Description("config.logging")
@@ -63,6 +68,12 @@ public class Config implements MetricsConfig {
   @JsonProperty(required = true)
   private Backend backend = new Backend();
 
+  @Description("config.shardBackends")
+  @NotNull
+  @Valid
+  @JsonProperty(required = false)
+  private List<ShardBackend> shardBackends = new ArrayList<>();
+
   public Logging getLogging() {
     return logging;
   }
@@ -111,4 +122,14 @@ public class Config implements MetricsConfig {
   public void setBackend(Backend backend) {
     this.backend = backend;
   }
+
+  public List<ShardBackend> getShardBackends() {
+    return shardBackends;
+  }
+
+  public void setShardBackends(List<ShardBackend> shardBackends) {
+    if (shardBackends != null) {
+      this.shardBackends = shardBackends;
+    }
+  }
 }
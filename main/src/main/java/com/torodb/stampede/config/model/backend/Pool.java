@@ -23,11 +23,12 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.torodb.packaging.config.annotation.Description;
 import com.torodb.packaging.config.model.backend.ConnectionPoolConfig;
 
+import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 @Description("config.pool")
-@JsonPropertyOrder({"connectionPoolTimeout", "connectionPoolSize"})
+@JsonPropertyOrder({"connectionPoolTimeout", "connectionPoolSize", "reservedReadPoolSize"})
 public class Pool implements ConnectionPoolConfig {
 
   @Description("config.generic.connectionPoolTimeout")
@@ -39,9 +40,10 @@ public class Pool implements ConnectionPoolConfig {
   @Min(20)
   @JsonProperty(required = true)
   private Integer connectionPoolSize = 30;
+  @Description("config.generic.reservedReadPoolSize")
   @NotNull
   @Min(1)
-  @JsonIgnore
+  @JsonProperty(required = false)
   private Integer reservedReadPoolSize = 1;
 
   @Override
@@ -71,4 +73,15 @@ public class Pool implements ConnectionPoolConfig {
     this.reservedReadPoolSize = reserverdReadPoolSize;
   }
 
+  /**
+   * The connections that are not reserved for cursors are shared by replication and system
+   * operations, which need at least two of them.
+   */
+  @JsonIgnore
+  @AssertTrue(message = "{config.validation.ReservedReadPoolSize.message}")
+  public boolean isReservedReadPoolSizeValid() {
+    return connectionPoolSize == null || reservedReadPoolSize == null
+        || reservedReadPoolSize < connectionPoolSize - 2;
+  }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede.config.model.backend;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.torodb.packaging.config.annotation.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A backend where the data replicated from the listed shards is stored instead of the default
+ * backend.
+ */
+@Description("config.shardBackend")
+@JsonPropertyOrder({"shards", "backend"})
+public class ShardBackend {
+
+  @Description("config.shardBackend.shards")
+  @NotNull
+  @Size(min = 1)
+  @JsonProperty(required = true)
+  private List<String> shards = new ArrayList<>();
+
+  @Description("config.shardBackend.backend")
+  @NotNull
+  @Valid
+  @JsonProperty(required = true)
+  private Backend backend = new Backend();
+
+  public List<String> getShards() {
+    return shards;
+  }
+
+  public void setShards(List<String> shards) {
+    this.shards = shards;
+  }
+
+  public Backend getBackend() {
+    return backend;
+  }
+
+  public void setBackend(Backend backend) {
+    this.backend = backend;
+  }
+}
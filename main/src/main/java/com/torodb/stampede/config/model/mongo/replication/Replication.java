@@ -35,12 +35,15 @@ import com.torodb.packaging.config.validation.NotEmptySrtingWithDefault;
 import java.util.List;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
 
 @JsonPropertyOrder({"replSetName", "syncSource", "ssl", "auth", "include", "exclude",
-    "mongopassFile", "shards"})
+    "mongopassFile", "bootstrapParallelism", "shards"})
 public class Replication extends AbstractReplication<ShardReplication> {
 
   private String mongopassFile = ConfigUtils.getUserHomeFilePath(".mongopass");
+  private Integer bootstrapParallelism = 4;
 
   public Replication() {
     super.setSyncSource(ListOfStringWithDefault.withDefault(ImmutableList.of("localhost:27017")));
@@ -77,6 +80,18 @@ public class Replication extends AbstractReplication<ShardReplication> {
     return mongopassFile;
   }
 
+  @Description("config.mongo.replication.bootstrapParallelism")
+  @NotNull
+  @Min(1)
+  @JsonProperty(required = false)
+  public Integer getBootstrapParallelism() {
+    return bootstrapParallelism;
+  }
+
+  public void setBootstrapParallelism(Integer bootstrapParallelism) {
+    this.bootstrapParallelism = bootstrapParallelism;
+  }
+
   /**
    * This method replicates #getShardList, but it is needed to avoid errors on jackson, please
    * use that method instead.
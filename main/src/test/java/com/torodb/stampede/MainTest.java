@@ -0,0 +1,89 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.common.collect.ImmutableList;
+import com.torodb.core.exceptions.SystemException;
+import com.torodb.stampede.config.model.Config;
+import com.torodb.stampede.config.model.backend.Backend;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+public class MainTest {
+
+  @Test
+  public void testGetBackends() throws Exception {
+    Config config = readShardBackendsConfig();
+
+    List<Backend> backends = Main.getBackends(config);
+    Assert.assertEquals(2, backends.size());
+    Assert.assertSame(config.getBackend(), backends.get(0));
+    Assert.assertSame(config.getShardBackends().get(0).getBackend(), backends.get(1));
+  }
+
+  @Test
+  public void testGetBackendsWithAllShardsOnShardBackends() throws Exception {
+    Config config = readShardBackendsConfig();
+    config.getShardBackends().get(0).setShards(ImmutableList.of("s1", "s2"));
+
+    List<Backend> backends = Main.getBackends(config);
+    Assert.assertEquals(1, backends.size());
+    Assert.assertSame(config.getShardBackends().get(0).getBackend(), backends.get(0));
+  }
+
+  @Test
+  public void testCheckBackendTargets() throws Exception {
+    Main.checkBackendTargets(readShardBackendsConfig());
+  }
+
+  @Test(expected = SystemException.class)
+  public void testCheckBackendTargetsWithSameDatabase() throws Exception {
+    Main.checkBackendTargets(
+        readConfig("/test-parse-with-yaml-using-duplicated-shard-backend.yml"));
+  }
+
+  @Test
+  public void testCheckBackendTargetsWithUnusedDefaultBackend() throws Exception {
+    Config config = readConfig("/test-parse-with-yaml-using-duplicated-shard-backend.yml");
+    config.getShardBackends().get(0).setShards(ImmutableList.of("s1", "s2"));
+
+    Main.checkBackendTargets(config);
+  }
+
+  private Config readShardBackendsConfig() throws Exception {
+    return readConfig("/test-parse-with-yaml-using-shard-backends.yml");
+  }
+
+  private Config readConfig(String resource) throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public boolean hasConfFile() {
+        return true;
+      }
+
+      @Override
+      public InputStream getConfInputStream() {
+        return MainTest.class.getResourceAsStream(resource);
+      }
+    };
+    return CliConfigUtils.readConfig(cliConfig);
+  }
+}
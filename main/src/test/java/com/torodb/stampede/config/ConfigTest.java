@@ -174,6 +174,70 @@ public class ConfigTest {
     CliConfigUtils.readConfig(cliConfig);
   }
 
+  @Test
+  public void testParseWithReservedReadPoolSizeParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/backend/pool/reservedReadPoolSize=5"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/backend/pool/reservedReadPoolSize has different value than that "
+        + "specified", Integer.valueOf(5), config.getBackend().getPool()
+        .getReservedReadPoolSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseWithTooBigReservedReadPoolSizeParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/backend/pool/connectionPoolSize=20",
+          "/backend/pool/reservedReadPoolSize=18"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    CliConfigUtils.readConfig(cliConfig);
+  }
+
+  @Test
+  public void testParseWithBootstrapParallelismParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/replication/bootstrapParallelism=8"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/replication/bootstrapParallelism has different value than that "
+        + "specified", Integer.valueOf(8), config.getReplication().getBootstrapParallelism());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseWithZeroBootstrapParallelismParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/replication/bootstrapParallelism=0"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    CliConfigUtils.readConfig(cliConfig);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testParseWithWrongTypeParam() throws Exception {
     CliConfig cliConfig = new CliConfig() {
@@ -326,6 +390,35 @@ public class ConfigTest {
     CliConfigUtils.readConfig(cliConfig);
   }
 
+  @Test
+  public void testParseWithYAMLUsingShardBackends() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public boolean hasConfFile() {
+        return true;
+      }
+
+      @Override
+      public InputStream getConfInputStream() {
+        return ConfigTest.class
+            .getResourceAsStream("/test-parse-with-yaml-using-shard-backends.yml");
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/shardBackends has not 1 entry", 1, config.getShardBackends().size());
+    Assert.assertEquals("/shardBackends/0/shards has different value than that specified",
+        Arrays.asList("s2"), config.getShardBackends().get(0).getShards());
+    Assert.assertEquals("/shardBackends/0/backend/postgres/host has different value than that "
+        + "specified", "otherhost", config.getShardBackends().get(0).getBackend()
+        .as(Postgres.class).getHost());
+    Assert.assertEquals("/shardBackends/0/backend/pool/connectionPoolSize has different value "
+        + "than that specified", Integer.valueOf(20), config.getShardBackends().get(0)
+        .getBackend().getPool().getConnectionPoolSize());
+    Assert.assertEquals("/backend/postgres/host has different value than that specified",
+        "localhost", config.getBackend().as(Postgres.class).getHost());
+  }
+
   @Test
   public void testParseWithXML() throws Exception {
     CliConfig cliConfig = new CliConfig() {
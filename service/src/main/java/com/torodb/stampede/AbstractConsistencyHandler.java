@@ -37,10 +37,17 @@ import org.apache.logging.log4j.Logger;
 import java.util.Optional;
 import java.util.concurrent.ThreadFactory;
 
+import javax.annotation.Nullable;
+
 public abstract class AbstractConsistencyHandler extends IdleTorodbService
     implements ConsistencyHandler {
 
   private boolean consistent;
+  /**
+   * The value stored on the backend or null if it is unknown or it has never been stored.
+   */
+  @Nullable
+  private Boolean storedConsistent;
   private final BackendService backendService;
   private final Retrier retrier;
 
@@ -72,7 +79,11 @@ public abstract class AbstractConsistencyHandler extends IdleTorodbService
   public void setConsistent(Logger logger, boolean consistency) throws RetrierGiveUpException {
     Preconditions.checkState(isRunning(), "The consistency handler service is not running");
     this.consistent = consistency;
-    flushConsistentState();
+    if (storedConsistent == null || storedConsistent != consistency) {
+      flushConsistentState();
+    } else {
+      logger.debug("Consistent state is already stored as '" + consistent + "'");
+    }
     logger.info("Consistent state has been set to '" + consistent + "'");
   }
 
@@ -90,10 +101,12 @@ public abstract class AbstractConsistencyHandler extends IdleTorodbService
             + "found");
       }
       consistent = ((KvBoolean) value).getPrimitiveValue();
+      storedConsistent = consistent;
     }
   }
 
   private void flushConsistentState() throws RollbackException, RetrierGiveUpException {
+    storedConsistent = null;
     retrier.retry(() -> {
       try (WriteDmlTransaction trans = backendService.openWriteTransaction()) {
 
@@ -104,6 +117,7 @@ public abstract class AbstractConsistencyHandler extends IdleTorodbService
       }
       return null;
     });
+    storedConsistent = consistent;
   }
 
 
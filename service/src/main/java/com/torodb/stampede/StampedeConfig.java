@@ -17,22 +17,35 @@
  */
 package com.torodb.stampede;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.inject.Injector;
 import com.torodb.core.backend.BackendBundle;
 import com.torodb.core.bundle.BundleConfig;
 import com.torodb.core.logging.LoggerFactory;
 import com.torodb.mongodb.repl.ConsistencyHandler;
 import com.torodb.mongodb.repl.filters.ReplicationFilters;
+import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.BufferRollCycle;
 import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.OffHeapBufferConfig;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingConfig;
 
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class StampedeConfig {
 
+  public static final String DEFAULT_BACKEND_ROUTE = "default";
+
   private final Injector essentialInjector;
   private final Function<BundleConfig, BackendBundle> backendBundleGenerator;
   private final ReplicationFilters userReplFilters;
@@ -40,14 +53,20 @@ public class StampedeConfig {
   private final List<ShardConfigBuilder> shardConfigBuilders;
   private final LoggerFactory lifecycleLoggerFactory;
   private final OffHeapBufferConfig offHeapBufferConfig;
+  private final int shardBootstrapParallelism;
+  private final List<BackendRoute> backendRoutes;
 
   private StampedeConfig(
       Injector essentialInjector,
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
       List<ShardConfigBuilder> shardConfigBuilders,
+      List<BackendRoute> shardBackendRoutes,
       LoggerFactory lf,
-      OffHeapBufferConfig offHeapBufferConfig) {
+      OffHeapBufferConfig offHeapBufferConfig,
+      int shardBootstrapParallelism) {
+    Preconditions.checkArgument(shardBootstrapParallelism > 0,
+        "The shard bootstrap parallelism must be greater than 0");
     this.essentialInjector = essentialInjector;
     this.backendBundleGenerator = backendBundleGenerator;
     this.userReplFilters = userReplFilters;
@@ -55,6 +74,9 @@ public class StampedeConfig {
     this.lifecycleLoggerFactory = lf;
     this.unsharded = false;
     this.offHeapBufferConfig = offHeapBufferConfig;
+    this.shardBootstrapParallelism = shardBootstrapParallelism;
+    this.backendRoutes = resolveBackendRoutes(backendBundleGenerator, shardConfigBuilders,
+        shardBackendRoutes);
   }
 
   private StampedeConfig(
@@ -71,6 +93,9 @@ public class StampedeConfig {
     this.lifecycleLoggerFactory = lf;
     this.unsharded = true;
     this.offHeapBufferConfig = offHeapBufferConfig;
+    this.shardBootstrapParallelism = 1;
+    this.backendRoutes = resolveBackendRoutes(backendBundleGenerator, this.shardConfigBuilders,
+        Collections.emptyList());
   }
 
   public static StampedeConfig createShardingConfig(
@@ -78,15 +103,19 @@ public class StampedeConfig {
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
       List<ShardConfigBuilder> shardConfigBuilders,
+      List<BackendRoute> shardBackendRoutes,
       LoggerFactory lf,
-      OffHeapBufferConfig offHeapBufferConfig) {
+      OffHeapBufferConfig offHeapBufferConfig,
+      int shardBootstrapParallelism) {
     return new StampedeConfig(
         essentialInjector,
         backendBundleGenerator,
         userReplFilters,
         shardConfigBuilders,
+        shardBackendRoutes,
         lf,
-        offHeapBufferConfig);
+        offHeapBufferConfig,
+        shardBootstrapParallelism);
   }
 
   public static StampedeConfig createUnshardedConfig(
@@ -128,6 +157,17 @@ public class StampedeConfig {
     return backendBundleGenerator;
   }
 
+  /**
+   * Returns the backends used to store the replicated data, each one with the shards whose data is
+   * stored on it.
+   *
+   * <p>Shards that are not explicitly routed to a backend are stored on the backend created by
+   * {@link #getBackendBundleGenerator()}, which is always the first route if it has any shard.
+   */
+  public List<BackendRoute> getBackendRoutes() {
+    return backendRoutes;
+  }
+
   public ReplicationFilters getUserReplicationFilters() {
     return userReplFilters;
   }
@@ -144,6 +184,131 @@ public class StampedeConfig {
     return offHeapBufferConfig;
   }
 
+  /**
+   * Returns the off heap buffer configuration used to replicate the shards of the given route.
+   *
+   * <p>When there is more than one route, each one stores its buffer on its own subdirectory of
+   * the {@link #getOffHeapBufferConfig() configured path}, named after the route, so routes never
+   * read or roll the files of each other.
+   */
+  public OffHeapBufferConfig getOffHeapBufferConfig(BackendRoute backendRoute) {
+    if (backendRoutes.size() <= 1) {
+      return offHeapBufferConfig;
+    }
+    String path = Paths.get(offHeapBufferConfig.getPath(), backendRoute.getDirectoryName())
+        .toString();
+    return new RouteOffHeapBufferConfig(offHeapBufferConfig, path);
+  }
+
+  /**
+   * Returns the maximum number of backend routes, and of shards whose consistency handlers are
+   * bootstrapped, that are started concurrently when the service starts.
+   *
+   * <p>Unsharded configurations always return 1.
+   */
+  public int getShardBootstrapParallelism() {
+    return shardBootstrapParallelism;
+  }
+
+  private static List<BackendRoute> resolveBackendRoutes(
+      Function<BundleConfig, BackendBundle> defaultBackendBundleGenerator,
+      List<ShardConfigBuilder> shardConfigBuilders,
+      List<BackendRoute> shardBackendRoutes) {
+    Set<String> shardIds = shardConfigBuilders.stream()
+        .map(ShardConfigBuilder::getShardId)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    Set<String> routedShardIds = new HashSet<>();
+
+    for (BackendRoute route : shardBackendRoutes) {
+      for (String shardId : route.getShardIds()) {
+        Preconditions.checkArgument(shardIds.contains(shardId),
+            "Backend " + route.getName() + " is configured for unknown shard " + shardId);
+        Preconditions.checkArgument(routedShardIds.add(shardId),
+            "Shard " + shardId + " is configured to be stored on more than one backend");
+      }
+    }
+
+    ImmutableList.Builder<BackendRoute> result = ImmutableList.builder();
+    Set<String> defaultShardIds = Sets.difference(shardIds, routedShardIds);
+    if (!defaultShardIds.isEmpty()) {
+      result.add(new BackendRoute(DEFAULT_BACKEND_ROUTE, defaultBackendBundleGenerator,
+          defaultShardIds));
+    }
+    result.addAll(shardBackendRoutes);
+    return result.build();
+  }
+
+  /**
+   * A backend where the data replicated from a set of shards is stored.
+   *
+   * <p>Each route has its own {@link BackendBundle}, and therefore its own connection pools and
+   * consistency handlers.
+   */
+  public static class BackendRoute {
+
+    private final String name;
+    private final Function<BundleConfig, BackendBundle> backendBundleGenerator;
+    private final ImmutableSet<String> shardIds;
+
+    public BackendRoute(String name,
+        Function<BundleConfig, BackendBundle> backendBundleGenerator,
+        Collection<String> shardIds) {
+      this.name = name;
+      this.backendBundleGenerator = backendBundleGenerator;
+      this.shardIds = ImmutableSet.copyOf(shardIds);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Function<BundleConfig, BackendBundle> getBackendBundleGenerator() {
+      return backendBundleGenerator;
+    }
+
+    public ImmutableSet<String> getShardIds() {
+      return shardIds;
+    }
+
+    /**
+     * Returns a name derived from the name of this route that can be safely used as a file name.
+     */
+    public String getDirectoryName() {
+      return name.replaceAll("^/+", "").replaceAll("[^A-Za-z0-9_.-]", "-");
+    }
+  }
+
+  private static class RouteOffHeapBufferConfig implements OffHeapBufferConfig {
+
+    private final OffHeapBufferConfig delegate;
+    private final String path;
+
+    public RouteOffHeapBufferConfig(OffHeapBufferConfig delegate, String path) {
+      this.delegate = delegate;
+      this.path = path;
+    }
+
+    @Override
+    public Boolean getEnabled() {
+      return delegate.getEnabled();
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public int getMaxFiles() {
+      return delegate.getMaxFiles();
+    }
+
+    @Override
+    public BufferRollCycle getRollCycle() {
+      return delegate.getRollCycle();
+    }
+  }
+
   public static interface ShardConfigBuilder {
 
     String getShardId();
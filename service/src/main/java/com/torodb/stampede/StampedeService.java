@@ -17,6 +17,9 @@
  */
 package com.torodb.stampede;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.inject.Injector;
 import com.torodb.core.Shutdowner;
@@ -33,20 +36,26 @@ import com.torodb.core.retrier.RetrierGiveUpException;
 import com.torodb.core.supervision.Supervisor;
 import com.torodb.core.supervision.SupervisorDecision;
 import com.torodb.mongodb.repl.ConsistencyHandler;
+import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.OffHeapBufferConfig;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingBundle;
-import com.torodb.mongodb.repl.sharding.MongoDbShardingConfig;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingConfigBuilder;
 import com.torodb.torod.TorodBundle;
 import com.torodb.torod.impl.sql.SqlTorodBundle;
 import com.torodb.torod.impl.sql.SqlTorodConfig;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This service is used to start and stop ToroDB Stampede.
@@ -95,12 +104,51 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     shutdowner.startAsync();
     shutdowner.awaitRunning();
     
-    BackendBundle backendBundle = stampedeConfig.getBackendBundleGenerator()
+    bootstrapConcurrently(
+        stampedeConfig.getBackendRoutes(),
+        StampedeConfig.BackendRoute::getName,
+        "Backend",
+        backendRoute -> {
+          startBackendRoute(backendRoute);
+          return backendRoute;
+        }
+    );
+
+    logger.info("ToroDB Stampede is now running");
+  }
+
+  @Override
+  protected void shutDown() throws Exception {
+    logger.info("Shutting down ToroDB Stampede");
+    if (shutdowner != null) {
+      shutdowner.stopAsync();
+      shutdowner.awaitTerminated();
+    }
+    logger.info("ToroDB Stampede has been shutted down");
+  }
+
+  /**
+   * Starts the bundles needed to replicate the shards of the given route into its backend.
+   */
+  private void startBackendRoute(StampedeConfig.BackendRoute backendRoute) throws Exception {
+    List<StampedeConfig.ShardConfigBuilder> shardConfBuilders = stampedeConfig
+        .getShardConfigBuilders().stream()
+        .filter(shardConfBuilder -> backendRoute.getShardIds()
+            .contains(shardConfBuilder.getShardId()))
+        .collect(Collectors.toList());
+
+    if (stampedeConfig.getBackendRoutes().size() > 1) {
+      logger.info("Starting backend {} for shards {}", backendRoute.getName(),
+          backendRoute.getShardIds());
+    }
+
+    BackendBundle backendBundle = backendRoute.getBackendBundleGenerator()
         .apply(generalBundleConfig);
     startBundle(backendBundle);
 
     Map<String, ConsistencyHandler> consistencyHandlers = createConsistencyHandlers(
         backendBundle,
+        shardConfBuilders,
         stampedeConfig.getThreadFactory()
     );
 
@@ -109,24 +157,15 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     TorodBundle torodBundle = createTorodBundle(backendBundle);
     startBundle(torodBundle);
 
-    MongoDbShardingBundle shardingBundle = createShardingBundle(torodBundle, consistencyHandlers);
+    MongoDbShardingBundle shardingBundle = createShardingBundle(torodBundle, shardConfBuilders,
+        consistencyHandlers, stampedeConfig.getOffHeapBufferConfig(backendRoute));
     startBundle(shardingBundle);
-
-    logger.info("ToroDB Stampede is now running");
   }
 
-  @Override
-  protected void shutDown() throws Exception {
-    logger.info("Shutting down ToroDB Stampede");
-    if (shutdowner != null) {
-      shutdowner.stopAsync();
-      shutdowner.awaitTerminated();
-    }
-    logger.info("ToroDB Stampede has been shutted down");
-  }
-
-  private Map<String, ConsistencyHandler> createConsistencyHandlers(BackendBundle backendBundle,
-      ThreadFactory threadFactory) {
+  @VisibleForTesting
+  Map<String, ConsistencyHandler> createConsistencyHandlers(BackendBundle backendBundle,
+      List<StampedeConfig.ShardConfigBuilder> shardConfBuilders, ThreadFactory threadFactory)
+      throws Exception {
     Retrier retrier = essentialInjector.getInstance(Retrier.class);
     BackendService backendService = backendBundle.getExternalInterface().getBackendService();
 
@@ -143,20 +182,14 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
       );
     }
 
-    Map<String, ConsistencyHandler> result = new HashMap<>();
-
-    stampedeConfig.getShardConfigBuilders().stream()
-        .map(StampedeConfig.ShardConfigBuilder::getShardId)
-        .forEachOrdered((shardId) -> {
-          ConsistencyHandler consistencyHandler = chSupplier.apply(shardId);
+    return bootstrapShards(shardConfBuilders, "consistency handler", shardConfBuilder -> {
+      ConsistencyHandler consistencyHandler = chSupplier.apply(shardConfBuilder.getShardId());
 
-          consistencyHandler.startAsync();
-          consistencyHandler.awaitRunning();
+      consistencyHandler.startAsync();
+      consistencyHandler.awaitRunning();
 
-          result.put(shardId, consistencyHandler);
-        });
-
-    return result;
+      return consistencyHandler;
+    });
   }
 
   private TorodBundle createTorodBundle(BackendBundle backendBundle) {
@@ -168,7 +201,9 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
   }
 
   private MongoDbShardingBundle createShardingBundle(TorodBundle torodBundle,
-      Map<String, ConsistencyHandler> consistencyHandler) {
+      List<StampedeConfig.ShardConfigBuilder> shardConfBuilders,
+      Map<String, ConsistencyHandler> consistencyHandler,
+      OffHeapBufferConfig offHeapBufferConfig) {
 
     MongoDbShardingConfigBuilder configBuilder;
     if (stampedeConfig.isUnsharded()) {
@@ -180,26 +215,88 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     configBuilder.setTorodBundle(torodBundle)
         .setUserReplFilter(stampedeConfig.getUserReplicationFilters())
         .setLifecycleLoggerFactory(stampedeConfig.getLifecycleLoggerFactory())
-        .setOffHeapBufferConfig(stampedeConfig.getOffHeapBufferConfig());
+        .setOffHeapBufferConfig(offHeapBufferConfig);
 
-    stampedeConfig.getShardConfigBuilders().forEach(shardConfBuilder ->
-        addShard(configBuilder, shardConfBuilder, consistencyHandler)
+    shardConfBuilders.forEach(shardConfBuilder ->
+        configBuilder.addShard(shardConfBuilder.createConfig(
+            consistencyHandler.get(shardConfBuilder.getShardId())))
     );
 
     return new MongoDbShardingBundle(configBuilder.build());
   }
 
-  private void addShard(
-      MongoDbShardingConfigBuilder shardingConfBuilder,
-      StampedeConfig.ShardConfigBuilder shardConfBuilder,
-      Map<String, ConsistencyHandler> consistencyHandlers) {
+  /**
+   * Executes the given task once per given shard, running at most
+   * {@link StampedeConfig#getShardBootstrapParallelism()} tasks at the same time.
+   *
+   * <p>The returned map is indexed by shard id and follows the order of the given shards, so
+   * callers can rely on a deterministic iteration order.
+   */
+  @VisibleForTesting
+  <T> Map<String, T> bootstrapShards(
+      List<StampedeConfig.ShardConfigBuilder> shardConfBuilders, String taskName,
+      BootstrapTask<StampedeConfig.ShardConfigBuilder, T> task) throws Exception {
+    return bootstrapConcurrently(shardConfBuilders, StampedeConfig.ShardConfigBuilder::getShardId,
+        "Shard " + taskName, task);
+  }
 
-    ConsistencyHandler consistencyHandler = consistencyHandlers.get(shardConfBuilder.getShardId());
+  /**
+   * Executes the given task once per element, running at most
+   * {@link StampedeConfig#getShardBootstrapParallelism()} tasks at the same time.
+   *
+   * <p>The returned map is indexed by the id of each element and follows the order of the given
+   * elements. If a task fails, the exception it threw is rethrown as is.
+   */
+  private <E, T> Map<String, T> bootstrapConcurrently(List<E> elements,
+      Function<E, String> idFunction, String description, BootstrapTask<E, T> task)
+      throws Exception {
+    int parallelism = Math.min(
+        stampedeConfig.getShardBootstrapParallelism(),
+        elements.size()
+    );
 
-    MongoDbShardingConfig.ShardConfig shardConfig = shardConfBuilder.createConfig(
-        consistencyHandler);
+    Map<String, T> result = new LinkedHashMap<>();
+    if (parallelism <= 1) {
+      for (E element : elements) {
+        String id = idFunction.apply(element);
+        result.put(id, timedBootstrap(description, id, element, task));
+      }
+      return result;
+    }
 
-    shardingConfBuilder.addShard(shardConfig);
+    ExecutorService bootstrapExecutor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    try {
+      Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+      for (E element : elements) {
+        String id = idFunction.apply(element);
+        futures.put(id, CompletableFuture.supplyAsync(() -> {
+          try {
+            return timedBootstrap(description, id, element, task);
+          } catch (Exception ex) {
+            throw new CompletionException(ex);
+          }
+        }, bootstrapExecutor));
+      }
+      for (Map.Entry<String, CompletableFuture<T>> entry : futures.entrySet()) {
+        result.put(entry.getKey(), entry.getValue().join());
+      }
+      return result;
+    } catch (CompletionException ex) {
+      Throwables.throwIfUnchecked(ex.getCause());
+      Throwables.throwIfInstanceOf(ex.getCause(), Exception.class);
+      throw ex;
+    } finally {
+      bootstrapExecutor.shutdownNow();
+    }
+  }
+
+  private <E, T> T timedBootstrap(String description, String id, E element,
+      BootstrapTask<E, T> task) throws Exception {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    T result = task.bootstrap(element);
+    logger.info("{} {} bootstrapped in {} ms", description, id,
+        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    return result;
   }
 
   private void dropUserData(BackendBundle backendBundle) throws UserException {
@@ -213,28 +310,34 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     bundle.startAsync();
     bundle.awaitRunning();
 
-    shutdowner.addStopShutdownListener(bundle);
+    //backend routes are started concurrently
+    synchronized (shutdowner) {
+      shutdowner.addStopShutdownListener(bundle);
+    }
   }
 
   private void resolveInconsistencies(BackendBundle backendBundle, 
       Map<String, ConsistencyHandler> consistencyHandlers) throws UserException,
       RetrierGiveUpException {
 
-    Optional<String> inconsistentShard = consistencyHandlers.entrySet().stream()
+    List<String> inconsistentShards = consistencyHandlers.entrySet().stream()
         .filter(e -> !e.getValue().isConsistent())
         .map(Map.Entry::getKey)
-        .findAny();
+        .collect(Collectors.toList());
 
-    //TODO: Some improvements can be done so only the inconsistent shards are dropped
-    if (inconsistentShard.isPresent()) {
-      logger.warn("Found that replication shard {} is not consistent.",
-          inconsistentShard.orElse("unknown")
-      );
+    //TODO: Only the inconsistent shards should be dropped, but chunks of a sharded collection
+    //are stored on the same doc part tables whatever shard they come from, so the backend would
+    //need to know which shard owns each document before being able to do that
+    if (!inconsistentShards.isEmpty()) {
+      logger.warn("Found that replication shards {} are not consistent.", inconsistentShards);
       logger.warn("Dropping user data.");
       dropUserData(backendBundle);
 
       for (Map.Entry<String, ConsistencyHandler> entry : consistencyHandlers.entrySet()) {
         String shardId = entry.getKey();
+        if (inconsistentShards.contains(shardId)) {
+          continue;
+        }
         ConsistencyHandler consistencyHandler = entry.getValue();
         Logger logger = new ComponentLoggerFactory("REPL-" + shardId)
             .apply(this.getClass());
@@ -244,4 +347,10 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
       logger.info("All replication shards are consistent");
     }
   }
+
+  @FunctionalInterface
+  interface BootstrapTask<E, T> {
+
+    T bootstrap(E element) throws Exception;
+  }
 }
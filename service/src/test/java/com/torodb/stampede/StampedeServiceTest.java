@@ -18,32 +18,52 @@
 package com.torodb.stampede;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HostAndPort;
 import com.google.common.util.concurrent.Service;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.torodb.backend.derby.DerbyDbBackendBundle;
 import com.torodb.backend.derby.driver.DerbyDbBackendConfigBuilder;
 import com.torodb.core.backend.BackendBundle;
+import com.torodb.core.backend.BackendService;
+import com.torodb.core.backend.WriteDmlTransaction;
 import com.torodb.core.bundle.BundleConfig;
+import com.torodb.core.bundle.BundleConfigImpl;
 import com.torodb.core.guice.EssentialModule;
+import com.torodb.core.logging.ComponentLoggerFactory;
 import com.torodb.core.logging.DefaultLoggerFactory;
+import com.torodb.core.retrier.Retrier;
+import com.torodb.kvdocument.values.KvBoolean;
 import com.torodb.mongodb.repl.ConsistencyHandler;
 import com.torodb.mongodb.repl.filters.ReplicationFilters;
 import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.OffHeapBufferConfig;
 import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.BufferRollCycle;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingConfig;
 import com.torodb.mongowp.client.wrapper.MongoClientConfigurationProperties;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class StampedeServiceTest {
 
+  private static final Logger LOGGER = new ComponentLoggerFactory("TEST")
+      .apply(StampedeServiceTest.class);
+
   private StampedeConfig stampedeConfig;
 
   @SuppressWarnings("checkstyle:JavadocMethod")
@@ -54,11 +74,233 @@ public class StampedeServiceTest {
         this::createBackendBundle,
         ReplicationFilters.allowAll(),
         createShards(1),
+        Collections.emptyList(),
         DefaultLoggerFactory.getInstance(),
-        createOffHeapBufferConfig()
+        createOffHeapBufferConfig(),
+        1
     );
   }
 
+  @Test
+  public void testCreateConsistencyHandlersConcurrently() throws Exception {
+    StampedeConfig parallelConfig = createParallelConfig(4, 3);
+    StampedeService stampedeService = new StampedeService(parallelConfig);
+    BackendBundle backendBundle = createBackendBundle(
+        new BundleConfigImpl(parallelConfig.getEssentialInjector(), stampedeService));
+    backendBundle.startAsync();
+    backendBundle.awaitRunning();
+
+    try {
+      Map<String, ConsistencyHandler> consistencyHandlers = stampedeService
+          .createConsistencyHandlers(backendBundle, parallelConfig.getShardConfigBuilders(),
+              parallelConfig.getThreadFactory());
+
+      Assert.assertEquals(ImmutableList.of("shard_0", "shard_1", "shard_2", "shard_3"),
+          new ArrayList<>(consistencyHandlers.keySet()));
+      consistencyHandlers.values().forEach(consistencyHandler ->
+          Assert.assertTrue(consistencyHandler.isRunning()));
+    } finally {
+      backendBundle.stopAsync();
+      backendBundle.awaitTerminated();
+    }
+  }
+
+  @Test
+  public void testSetConsistentSkipsStoredValue() throws Exception {
+    BackendBundle backendBundle = startBackendBundle();
+    try {
+      BackendService backendService = backendBundle.getExternalInterface().getBackendService();
+      Retrier retrier = stampedeConfig.getEssentialInjector().getInstance(Retrier.class);
+
+      ConsistencyHandler consistencyHandler = startConsistencyHandler(backendService, retrier);
+      consistencyHandler.setConsistent(LOGGER, true);
+      consistencyHandler.stopAsync();
+      consistencyHandler.awaitTerminated();
+
+      consistencyHandler = startConsistencyHandler(backendService, retrier);
+      Assert.assertTrue(consistencyHandler.isConsistent());
+
+      //if the handler wrote the loaded value again, the backend would be consistent again
+      writeConsistent(backendService, false);
+      consistencyHandler.setConsistent(LOGGER, true);
+      Assert.assertFalse(startConsistencyHandler(backendService, retrier).isConsistent());
+    } finally {
+      backendBundle.stopAsync();
+      backendBundle.awaitTerminated();
+    }
+  }
+
+  @Test
+  public void testSetConsistentWritesNewValue() throws Exception {
+    BackendBundle backendBundle = startBackendBundle();
+    try {
+      BackendService backendService = backendBundle.getExternalInterface().getBackendService();
+      Retrier retrier = stampedeConfig.getEssentialInjector().getInstance(Retrier.class);
+
+      writeConsistent(backendService, false);
+
+      ConsistencyHandler consistencyHandler = startConsistencyHandler(backendService, retrier);
+      Assert.assertFalse(consistencyHandler.isConsistent());
+      consistencyHandler.setConsistent(LOGGER, true);
+      Assert.assertTrue(startConsistencyHandler(backendService, retrier).isConsistent());
+
+      consistencyHandler.setConsistent(LOGGER, false);
+      Assert.assertFalse(startConsistencyHandler(backendService, retrier).isConsistent());
+    } finally {
+      backendBundle.stopAsync();
+      backendBundle.awaitTerminated();
+    }
+  }
+
+  @Test
+  public void testSetConsistentWritesAgainAfterFailedFlush() throws Exception {
+    BackendBundle backendBundle = startBackendBundle();
+    try {
+      BackendService backendService = backendBundle.getExternalInterface().getBackendService();
+      Retrier retrier = stampedeConfig.getEssentialInjector().getInstance(Retrier.class);
+      writeConsistent(backendService, true);
+
+      AtomicBoolean fail = new AtomicBoolean(true);
+      Retrier failingRetrier = (Retrier) Proxy.newProxyInstance(
+          Retrier.class.getClassLoader(),
+          new Class<?>[] {Retrier.class},
+          (proxy, method, args) -> {
+            if (method.getDeclaringClass().equals(Retrier.class) && fail.getAndSet(false)) {
+              throw new IllegalStateException("Simulated flush failure");
+            }
+            try {
+              return method.invoke(retrier, args);
+            } catch (InvocationTargetException ex) {
+              throw ex.getCause();
+            }
+          });
+
+      ConsistencyHandler consistencyHandler = startConsistencyHandler(backendService,
+          failingRetrier);
+      Assert.assertTrue(consistencyHandler.isConsistent());
+      try {
+        consistencyHandler.setConsistent(LOGGER, false);
+        Assert.fail("The flush was expected to fail");
+      } catch (IllegalStateException ex) {
+        //expected
+      }
+
+      //the stored value is unknown after the failure, so setting true must write it
+      writeConsistent(backendService, false);
+      consistencyHandler.setConsistent(LOGGER, true);
+      Assert.assertTrue(startConsistencyHandler(backendService, retrier).isConsistent());
+    } finally {
+      backendBundle.stopAsync();
+      backendBundle.awaitTerminated();
+    }
+  }
+
+  @Test
+  public void testBootstrapShardsKeepsShardOrder() throws Exception {
+    StampedeConfig parallelConfig = createParallelConfig(4, 4);
+    StampedeService stampedeService = new StampedeService(parallelConfig);
+
+    //the first shards are the last ones to finish
+    Map<String, String> result = stampedeService.bootstrapShards(
+        parallelConfig.getShardConfigBuilders(), "test", shardConfBuilder -> {
+          int id = Integer.parseInt(shardConfBuilder.getShardId().substring("shard_".length()));
+          Uninterruptibles.sleepUninterruptibly((4 - id) * 50, TimeUnit.MILLISECONDS);
+          return shardConfBuilder.getShardId();
+        });
+
+    Assert.assertEquals(ImmutableList.of("shard_0", "shard_1", "shard_2", "shard_3"),
+        new ArrayList<>(result.keySet()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBootstrapShardsThrowsOriginalException() throws Exception {
+    StampedeConfig parallelConfig = createParallelConfig(4, 4);
+    StampedeService stampedeService = new StampedeService(parallelConfig);
+
+    stampedeService.bootstrapShards(parallelConfig.getShardConfigBuilders(), "test",
+        shardConfBuilder -> {
+          if (shardConfBuilder.getShardId().equals("shard_2")) {
+            throw new IllegalStateException("Consistency handler failure");
+          }
+          return shardConfBuilder.getShardId();
+        });
+  }
+
+  @Test
+  public void testBackendRoutes() {
+    StampedeConfig.BackendRoute route = new StampedeConfig.BackendRoute(
+        "other", this::createBackendBundle, ImmutableList.of("shard_2"));
+    StampedeConfig routedConfig = StampedeConfig.createShardingConfig(
+        stampedeConfig.getEssentialInjector(),
+        this::createBackendBundle,
+        ReplicationFilters.allowAll(),
+        createShards(3),
+        ImmutableList.of(route),
+        DefaultLoggerFactory.getInstance(),
+        createOffHeapBufferConfig(),
+        2
+    );
+
+    List<StampedeConfig.BackendRoute> routes = routedConfig.getBackendRoutes();
+    Assert.assertEquals(2, routes.size());
+    Assert.assertEquals(StampedeConfig.DEFAULT_BACKEND_ROUTE, routes.get(0).getName());
+    Assert.assertEquals(ImmutableSet.of("shard_0", "shard_1"), routes.get(0).getShardIds());
+    Assert.assertSame(route, routes.get(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBackendRoutesWithUnknownShard() {
+    StampedeConfig.createShardingConfig(
+        stampedeConfig.getEssentialInjector(),
+        this::createBackendBundle,
+        ReplicationFilters.allowAll(),
+        createShards(1),
+        ImmutableList.of(new StampedeConfig.BackendRoute(
+            "other", this::createBackendBundle, ImmutableList.of("shard_1"))),
+        DefaultLoggerFactory.getInstance(),
+        createOffHeapBufferConfig(),
+        1
+    );
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBackendRoutesWithDuplicatedShard() {
+    StampedeConfig.createShardingConfig(
+        stampedeConfig.getEssentialInjector(),
+        this::createBackendBundle,
+        ReplicationFilters.allowAll(),
+        createShards(2),
+        ImmutableList.of(
+            new StampedeConfig.BackendRoute(
+                "other", this::createBackendBundle, ImmutableList.of("shard_1")),
+            new StampedeConfig.BackendRoute(
+                "another", this::createBackendBundle, ImmutableList.of("shard_0", "shard_1"))),
+        DefaultLoggerFactory.getInstance(),
+        createOffHeapBufferConfig(),
+        1
+    );
+  }
+
+  @Test
+  public void testOffHeapBufferPathPerBackendRoute() {
+    StampedeConfig routedConfig = createRoutedConfig();
+
+    List<StampedeConfig.BackendRoute> routes = routedConfig.getBackendRoutes();
+    Assert.assertEquals(2, routes.size());
+    Assert.assertEquals(Paths.get("buffer", "default").toString(),
+        routedConfig.getOffHeapBufferConfig(routes.get(0)).getPath());
+    Assert.assertEquals(Paths.get("buffer", "shardBackends-0").toString(),
+        routedConfig.getOffHeapBufferConfig(routes.get(1)).getPath());
+    Assert.assertEquals(5, routedConfig.getOffHeapBufferConfig(routes.get(1)).getMaxFiles());
+  }
+
+  @Test
+  public void testOffHeapBufferPathWithoutBackendRoutes() {
+    StampedeConfig.BackendRoute route = stampedeConfig.getBackendRoutes().get(0);
+    Assert.assertSame(stampedeConfig.getOffHeapBufferConfig(),
+        stampedeConfig.getOffHeapBufferConfig(route));
+  }
+
   @Test
   public void testCreateStampedeService() {
     Service stampedeService = new StampedeService(stampedeConfig);
@@ -76,6 +318,69 @@ public class StampedeServiceTest {
     stampedeService.awaitTerminated();
   }
 
+  @Test
+  @Ignore
+  public void testCreateStampedeServiceWithBackendRoutes_run() {
+    Service stampedeService = new StampedeService(createRoutedConfig());
+    stampedeService.startAsync();
+    stampedeService.awaitRunning();
+
+    stampedeService.stopAsync();
+    stampedeService.awaitTerminated();
+  }
+
+  private StampedeConfig createRoutedConfig() {
+    return StampedeConfig.createShardingConfig(
+        createEssentialInjector(),
+        this::createBackendBundle,
+        ReplicationFilters.allowAll(),
+        createShards(2),
+        ImmutableList.of(new StampedeConfig.BackendRoute(
+            "/shardBackends/0", this::createBackendBundle, ImmutableList.of("shard_1"))),
+        DefaultLoggerFactory.getInstance(),
+        createOffHeapBufferConfig("buffer"),
+        2
+    );
+  }
+
+  private BackendBundle startBackendBundle() {
+    BackendBundle backendBundle = createBackendBundle(new BundleConfigImpl(
+        stampedeConfig.getEssentialInjector(), new StampedeService(stampedeConfig)));
+    backendBundle.startAsync();
+    backendBundle.awaitRunning();
+    return backendBundle;
+  }
+
+  private ConsistencyHandler startConsistencyHandler(BackendService backendService,
+      Retrier retrier) {
+    ConsistencyHandler consistencyHandler = new DefaultConsistencyHandler(backendService,
+        retrier, stampedeConfig.getThreadFactory());
+    consistencyHandler.startAsync();
+    consistencyHandler.awaitRunning();
+    return consistencyHandler;
+  }
+
+  private void writeConsistent(BackendService backendService, boolean consistent)
+      throws Exception {
+    try (WriteDmlTransaction trans = backendService.openWriteTransaction()) {
+      trans.writeMetaInfo(() -> "repl.consistent", KvBoolean.from(consistent));
+      trans.commit();
+    }
+  }
+
+  private StampedeConfig createParallelConfig(int shards, int parallelism) {
+    return StampedeConfig.createShardingConfig(
+        createEssentialInjector(),
+        this::createBackendBundle,
+        ReplicationFilters.allowAll(),
+        createShards(shards),
+        Collections.emptyList(),
+        DefaultLoggerFactory.getInstance(),
+        createOffHeapBufferConfig(),
+        parallelism
+    );
+  }
+
   private Injector createEssentialInjector() {
     return Guice.createInjector(new EssentialModule(
         DefaultLoggerFactory.getInstance(),
@@ -122,6 +427,10 @@ public class StampedeServiceTest {
   }
 
   private OffHeapBufferConfig createOffHeapBufferConfig() {
+    return createOffHeapBufferConfig("");
+  }
+
+  private OffHeapBufferConfig createOffHeapBufferConfig(String path) {
     OffHeapBufferConfig bufferConfig = new OffHeapBufferConfig() {
       @Override
       public Boolean getEnabled() {
@@ -130,7 +439,7 @@ public class StampedeServiceTest {
 
       @Override
       public String getPath() {
-        return "";
+        return path;
       }
 
       @Override